@@ -0,0 +1,305 @@
+package net.shrimpworks.colours;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A multi-resolution summary of an image's colours, allowing average colour
+ * and colour area queries to be answered without reading the source image
+ * again.
+ * <p>
+ * Level 0 of the pyramid holds the individual samples read from the image.
+ * Level 1 holds colour totals for tiles of 16x16 samples, and each
+ * subsequent level holds totals for 2x2 blocks of cells from the level
+ * below it, up to a single cell covering the entire image.
+ * <p>
+ * Queries are answered by adding up the coarsest cells which fit entirely
+ * within the queried region, then using successively finer levels for the
+ * strips around them. Only samples in strips narrower than a single level 1
+ * tile, along the edges of the region, are converted and grouped again.
+ * <p>
+ * Create a pyramid via {@link ColourReader#pyramid(BufferedImage)}.
+ */
+public class ColourPyramid {
+
+	private static final int TILE_SIZE = 16;
+
+	private final int width;
+	private final int height;
+	private final int xStep;
+	private final int yStep;
+	private final List<Color> groups;
+	private final Function<HSBColour, Color> classifier;
+
+	private final int cols;
+	private final int rows;
+	private final int[] samples;
+
+	private final List<Level> levels;
+
+	ColourPyramid(BufferedImage image, int xStep, int yStep, List<Color> groups, Function<HSBColour, Color> classifier) {
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		this.xStep = xStep;
+		this.yStep = yStep;
+		this.groups = Collections.unmodifiableList(groups);
+		this.classifier = classifier;
+
+		this.cols = ceilDiv(width, xStep);
+		this.rows = ceilDiv(height, yStep);
+		this.samples = new int[cols * rows];
+
+		this.levels = new ArrayList<>();
+
+		// the first level of totals is built while reading samples, so each pixel is only read and converted once
+		final Level tiles = new Level(ceilDiv(cols, TILE_SIZE), ceilDiv(rows, TILE_SIZE), TILE_SIZE, groups.size());
+		ColourReader.readImage(image, xStep, yStep, (column, row, rgb) -> {
+			final float[] hsb = Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, (rgb) & 0xFF, null);
+			samples[(row * cols) + column] = rgb;
+			tiles.addSample(((row / TILE_SIZE) * tiles.cols) + (column / TILE_SIZE), rgb, group(hsb), hsb);
+		});
+		levels.add(tiles);
+
+		Level level = tiles;
+		while (level.cols > 1 || level.rows > 1) {
+			level = level.halve();
+			levels.add(level);
+		}
+	}
+
+	/**
+	 * Determine a single average colour of the entire image.
+	 *
+	 * @return average colour of the image
+	 * @see ColourReader#averageColour(BufferedImage)
+	 */
+	public HSBColour averageColour() {
+		return averageColour(new Rectangle(0, 0, width, height));
+	}
+
+	/**
+	 * Determine a single average colour of a region of the image.
+	 * <p>
+	 * The region's edges must fall on the image's edges, or on multiples of
+	 * the sampling step used when reading the image. When the pyramid was
+	 * built at a resolution of 1.0, any region within the image is valid.
+	 *
+	 * @param region region of the image, in source image pixels
+	 * @return average colour of the region
+	 */
+	public HSBColour averageColour(Rectangle region) {
+		return totals(region).averageColour(0);
+	}
+
+	/**
+	 * Determine the colour composition of the entire image.
+	 *
+	 * @return list of colours in image, ordered by their usage volume
+	 * @see ColourReader#colourArea(BufferedImage)
+	 */
+	public List<ColourArea> colourArea() {
+		return colourArea(new Rectangle(0, 0, width, height));
+	}
+
+	/**
+	 * Determine the colour composition of a region of the image.
+	 * <p>
+	 * The region's edges must fall on the image's edges, or on multiples of
+	 * the sampling step used when reading the image. When the pyramid was
+	 * built at a resolution of 1.0, any region within the image is valid.
+	 *
+	 * @param region region of the image, in source image pixels
+	 * @return list of colours in region, ordered by their usage volume
+	 */
+	public List<ColourArea> colourArea(Rectangle region) {
+		return totals(region).colourArea(0, groups);
+	}
+
+	int levelCount() {
+		return levels.size() + 1;
+	}
+
+	int columns(int level) {
+		return level == 0 ? cols : levels.get(level - 1).cols;
+	}
+
+	int rows(int level) {
+		return level == 0 ? rows : levels.get(level - 1).rows;
+	}
+
+	private int group(float[] hsb) {
+		return groups.indexOf(classifier.apply(new HSBColour(hsb)));
+	}
+
+	private Level totals(Rectangle region) {
+		if (region.x < 0 || region.y < 0 || region.width <= 0 || region.height <= 0
+			|| region.x + region.width > width || region.y + region.height > height) {
+			throw new IllegalArgumentException("Region must be within the bounds of the image");
+		}
+
+		final int x0 = sample(region.x, xStep, width, cols);
+		final int y0 = sample(region.y, yStep, height, rows);
+		final int x1 = sample(region.x + region.width, xStep, width, cols);
+		final int y1 = sample(region.y + region.height, yStep, height, rows);
+		if (x1 <= x0 || y1 <= y0) throw new IllegalArgumentException("Region does not contain any samples");
+
+		final Level totals = new Level(1, 1, 0, groups.size());
+		accumulate(totals, levels.size(), x0, y0, x1, y1);
+		return totals;
+	}
+
+	/**
+	 * Add the colours of a range of samples to a running total, using whole
+	 * cells of the given level where they fit within the range, and finer
+	 * levels for the strips of samples around them.
+	 */
+	private void accumulate(Level totals, int level, int x0, int y0, int x1, int y1) {
+		if (x1 <= x0 || y1 <= y0) return;
+
+		if (level == 0) {
+			for (int j = y0; j < y1; j++) {
+				for (int i = x0; i < x1; i++) {
+					final int rgb = samples[(j * cols) + i];
+					final float[] hsb = Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, (rgb) & 0xFF, null);
+					totals.addSample(0, rgb, group(hsb), hsb);
+				}
+			}
+			return;
+		}
+
+		// cells entirely within the range; cells in the last row and column may be smaller, ending at the image edge
+		final Level l = levels.get(level - 1);
+		final int cx0 = ceilDiv(x0, l.size);
+		final int cy0 = ceilDiv(y0, l.size);
+		final int cx1 = x1 == cols ? l.cols : x1 / l.size;
+		final int cy1 = y1 == rows ? l.rows : y1 / l.size;
+
+		if (cx1 <= cx0 || cy1 <= cy0) {
+			accumulate(totals, level - 1, x0, y0, x1, y1);
+			return;
+		}
+
+		for (int j = cy0; j < cy1; j++) {
+			for (int i = cx0; i < cx1; i++) {
+				totals.addCell(0, l, (j * l.cols) + i);
+			}
+		}
+
+		final int ix0 = cx0 * l.size;
+		final int iy0 = cy0 * l.size;
+		final int ix1 = Math.min(cx1 * l.size, x1);
+		final int iy1 = Math.min(cy1 * l.size, y1);
+
+		accumulate(totals, level - 1, x0, y0, x1, iy0);
+		accumulate(totals, level - 1, x0, iy1, x1, y1);
+		accumulate(totals, level - 1, x0, iy0, ix0, iy1);
+		accumulate(totals, level - 1, ix1, iy0, x1, iy1);
+	}
+
+	private static int sample(int pixel, int step, int size, int samples) {
+		if (pixel == size) return samples;
+		if (pixel % step != 0) {
+			throw new IllegalArgumentException(String.format("Region edge %d is not aligned to sampling step %d", pixel, step));
+		}
+		return pixel / step;
+	}
+
+	private static int ceilDiv(int value, int divisor) {
+		return (value + divisor - 1) / divisor;
+	}
+
+	/**
+	 * A grid of colour totals, with each cell covering <code>size</code> by
+	 * <code>size</code> samples.
+	 * <p>
+	 * A single-cell level is also used to hold running totals while
+	 * answering queries.
+	 */
+	private static class Level {
+
+		final int cols;
+		final int rows;
+		final int size;
+		final int groups;
+
+		final int[] rgb;
+		final int[] count;
+		final int[] groupCount;
+		final float[] groupHsb;
+
+		private Level(int cols, int rows, int size, int groups) {
+			this.cols = cols;
+			this.rows = rows;
+			this.size = size;
+			this.groups = groups;
+
+			this.rgb = new int[cols * rows * 3];
+			this.count = new int[cols * rows];
+			this.groupCount = new int[cols * rows * groups];
+			this.groupHsb = new float[cols * rows * groups * 3];
+		}
+
+		private int slot(int cell, int group) {
+			return (cell * groups) + group;
+		}
+
+		void addSample(int cell, int rgb, int group, float[] hsb) {
+			this.rgb[(cell * 3)] += (rgb >> 16) & 0xFF;
+			this.rgb[(cell * 3) + 1] += (rgb >> 8) & 0xFF;
+			this.rgb[(cell * 3) + 2] += (rgb) & 0xFF;
+			this.count[cell]++;
+
+			// samples not matching any group still count towards the total area
+			if (group >= 0) {
+				groupCount[slot(cell, group)]++;
+				for (int n = 0; n < 3; n++) groupHsb[(slot(cell, group) * 3) + n] += hsb[n];
+			}
+		}
+
+		void addCell(int cell, Level from, int fromCell) {
+			for (int n = 0; n < 3; n++) rgb[(cell * 3) + n] += from.rgb[(fromCell * 3) + n];
+			count[cell] += from.count[fromCell];
+			for (int g = 0; g < groups; g++) {
+				groupCount[slot(cell, g)] += from.groupCount[from.slot(fromCell, g)];
+				for (int n = 0; n < 3; n++) groupHsb[(slot(cell, g) * 3) + n] += from.groupHsb[(from.slot(fromCell, g) * 3) + n];
+			}
+		}
+
+		Level halve() {
+			final Level next = new Level(ceilDiv(cols, 2), ceilDiv(rows, 2), size * 2, groups);
+			for (int j = 0; j < rows; j++) {
+				for (int i = 0; i < cols; i++) {
+					next.addCell(((j / 2) * next.cols) + (i / 2), this, (j * cols) + i);
+				}
+			}
+			return next;
+		}
+
+		HSBColour averageColour(int cell) {
+			return new HSBColour(Color.RGBtoHSB(rgb[(cell * 3)] / count[cell],
+												rgb[(cell * 3) + 1] / count[cell],
+												rgb[(cell * 3) + 2] / count[cell], null));
+		}
+
+		List<ColourArea> colourArea(int cell, List<Color> groupColours) {
+			List<ColourArea> colours = new ArrayList<>();
+
+			for (int g = 0; g < groups; g++) {
+				final int n = groupCount[slot(cell, g)];
+				if (n == 0) continue;
+				colours.add(new ColourArea(new HSBColour(groupHsb[(slot(cell, g) * 3)] / n,
+														 groupHsb[(slot(cell, g) * 3) + 1] / n,
+														 groupHsb[(slot(cell, g) * 3) + 2] / n),
+										   ((float)n / (float)count[cell])));
+			}
+
+			Collections.sort(colours);
+
+			return Collections.unmodifiableList(colours);
+		}
+	}
+}
@@ -161,19 +161,7 @@ public class ColourReader {
 
 		samples.forEach(rgb -> {
 			HSBColour hsb = new HSBColour(Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, (rgb) & 0xFF, null));
-			Color color = null;
-
-			// handle black/white/grey separately
-			if (hsb.saturation() <= whiteThreshold && hsb.brightness() >= (1f - whiteThreshold)) {
-				color = Color.WHITE;
-			} else if (hsb.hue() <= blackThreshold && hsb.saturation() <= whiteThreshold
-					   && hsb.brightness() < (1f - whiteThreshold) && hsb.brightness() > blackThreshold) {
-				color = Color.GRAY;
-			} else if (hsb.brightness() <= blackThreshold) {
-				color = Color.BLACK;
-			} else {
-				for (Hue hue : hues) if (hue.matches(hsb)) color = hue.color();
-			}
+			Color color = classify(hsb);
 
 			// null check, since it's possible a hue set was provided which does not cover something
 			if (color != null) {
@@ -202,17 +190,87 @@ public class ColourReader {
 		return Collections.unmodifiableList(colours);
 	}
 
-	private static List<Integer> readImage(BufferedImage image, float resolution) {
-		final int xStep = image.getWidth() / (int)(image.getWidth() * resolution);
-		final int yStep = image.getHeight() / (int)(image.getHeight() * resolution);
+	/**
+	 * Build a {@link ColourPyramid} of the image, allowing repeated average
+	 * colour and colour area queries of the whole image or regions of it,
+	 * without reading the image's pixels again.
+	 * <p>
+	 * The image is sampled once at this reader's resolution, and the
+	 * samples are grouped using this reader's hues and black and white
+	 * thresholds. The resulting pyramid holds successively halved grids of
+	 * colour totals, so most of any query is answered from a handful of
+	 * coarse cells.
+	 * <p>
+	 * A pyramid uses roughly 5 to 6 bytes of memory per sample, so should
+	 * only be kept for as long as it's needed.
+	 *
+	 * @param image image to analyse
+	 * @return a colour pyramid of the image
+	 */
+	public ColourPyramid pyramid(BufferedImage image) {
+		final List<Color> groups = new ArrayList<>();
+		for (Hue hue : hues) if (!groups.contains(hue.color())) groups.add(hue.color());
+		for (Color c : new Color[] { Color.WHITE, Color.GRAY, Color.BLACK }) if (!groups.contains(c)) groups.add(c);
+
+		return new ColourPyramid(image, sampleStep(image.getWidth(), resolution), sampleStep(image.getHeight(), resolution),
+								 groups, this::classify);
+	}
+
+	/**
+	 * Determine which colour group a colour belongs to, based on this
+	 * reader's hues and black and white thresholds.
+	 *
+	 * @param hsb colour to group
+	 * @return the group's reference colour, or null if no group matches
+	 */
+	Color classify(HSBColour hsb) {
+		// handle black/white/grey separately
+		if (hsb.saturation() <= whiteThreshold && hsb.brightness() >= (1f - whiteThreshold)) {
+			return Color.WHITE;
+		} else if (hsb.hue() <= blackThreshold && hsb.saturation() <= whiteThreshold
+				   && hsb.brightness() < (1f - whiteThreshold) && hsb.brightness() > blackThreshold) {
+			return Color.GRAY;
+		} else if (hsb.brightness() <= blackThreshold) {
+			return Color.BLACK;
+		}
 
+		Color color = null;
+		for (Hue hue : hues) if (hue.matches(hsb)) color = hue.color();
+		return color;
+	}
+
+	private static List<Integer> readImage(BufferedImage image, float resolution) {
 		final List<Integer> result = new ArrayList<>();
-		for (int x = 0; x < image.getWidth(); x += xStep) {
-			for (int y = 0; y < image.getHeight(); y += yStep) {
-				result.add(image.getRGB(x, y));
+		readImage(image, sampleStep(image.getWidth(), resolution), sampleStep(image.getHeight(), resolution),
+				  (column, row, rgb) -> result.add(rgb));
+
+		return result;
+	}
+
+	/**
+	 * Read samples from an image, every <code>xStep</code> pixels across and
+	 * every <code>yStep</code> pixels down.
+	 *
+	 * @param image    image to read
+	 * @param xStep    horizontal distance between samples, in pixels
+	 * @param yStep    vertical distance between samples, in pixels
+	 * @param consumer receives each sample, along with its position in the sample grid
+	 */
+	static void readImage(BufferedImage image, int xStep, int yStep, SampleConsumer consumer) {
+		for (int x = 0, column = 0; x < image.getWidth(); x += xStep, column++) {
+			for (int y = 0, row = 0; y < image.getHeight(); y += yStep, row++) {
+				consumer.accept(column, row, image.getRGB(x, y));
 			}
 		}
+	}
 
-		return result;
+	static int sampleStep(int size, float resolution) {
+		return size / (int)(size * resolution);
+	}
+
+	@FunctionalInterface
+	interface SampleConsumer {
+
+		void accept(int column, int row, int rgb);
 	}
 }
@@ -145,6 +145,95 @@ public class ColourReaderTest {
 		assertArrayEquals(getHSB(Color.BLUE), colours.stream().filter(c -> c.volume() == 0.5f).findFirst().get().colour().hsb(), 0.0001f);
 	}
 
+	@Test
+	public void pyramidImageTest() {
+		// whole-image queries from the pyramid should match reading the image directly
+		BufferedImage threeCols = ImageUtils.quartersImage(20, 20, Color.BLUE, Color.BLUE, Color.RED, Color.GREEN);
+		for (float resolution : new float[] { 1f, 0.5f }) {
+			ColourReader colourReader = new ColourReader().withResolution(resolution);
+			ColourPyramid pyramid = colourReader.pyramid(threeCols);
+			assertEquals(colourReader.averageColour(threeCols), pyramid.averageColour());
+
+			List<ColourArea> direct = colourReader.colourArea(threeCols);
+			assertEquals(direct.size(), pyramid.colourArea().size());
+			assertTrue(direct.containsAll(pyramid.colourArea()));
+		}
+	}
+
+	@Test
+	public void pyramidAlignedRegionTest() {
+		// 64x64 samples become 4x4 tiles, then 2x2 and 1x1 cells
+		BufferedImage threeCols = ImageUtils.quartersImage(64, 64, Color.BLUE, Color.BLUE, Color.RED, Color.GREEN);
+		ColourPyramid pyramid = new ColourReader().withResolution(1f).pyramid(threeCols);
+		assertEquals(4, pyramid.levelCount());
+		assertEquals(2, pyramid.columns(2));
+		assertEquals(1, pyramid.rows(3));
+
+		// query a single quarter of the image, matching one level 2 cell - 100% of a single colour expected
+		List<ColourArea> colours = pyramid.colourArea(new Rectangle(0, 32, 32, 32));
+		assertEquals(1, colours.size());
+		assertArrayEquals(getHSB(Color.RED), colours.get(0).colour().hsb(), 0.0001f);
+		assertEquals(1f, colours.get(0).volume(), 0.0001f);
+		assertEquals(120, pyramid.averageColour(new Rectangle(32, 32, 32, 32)).hue() * 360, 0.0);
+
+		// query the bottom half of the image, matching two level 2 cells - 50/50 split expected
+		colours = pyramid.colourArea(new Rectangle(0, 32, 64, 32));
+		assertEquals(2, colours.size());
+		assertEquals(2, colours.stream().filter(c -> c.volume() == 0.5f).count());
+	}
+
+	@Test
+	public void pyramidUnalignedRegionTest() {
+		BufferedImage threeCols = ImageUtils.quartersImage(64, 64, Color.BLUE, Color.BLUE, Color.RED, Color.GREEN);
+		ColourReader colourReader = new ColourReader().withResolution(1f);
+		ColourPyramid pyramid = colourReader.pyramid(threeCols);
+
+		// query the bottom half of the image, offset from the tile grid - 29/61 red, 32/61 green split expected
+		List<ColourArea> colours = pyramid.colourArea(new Rectangle(3, 32, 61, 32));
+		assertEquals(2, colours.size());
+		assertEquals(29f / 61f, colours.stream().filter(c -> c.colour().equals(new HSBColour(getHSB(Color.RED))))
+										  .findFirst().get().volume(), 0.0001f);
+		assertEquals(32f / 61f, colours.stream().filter(c -> c.colour().equals(new HSBColour(getHSB(Color.GREEN))))
+										  .findFirst().get().volume(), 0.0001f);
+
+		// regions made up of coarse cells and unaligned edges should match reading that part of the image directly
+		for (Rectangle region : new Rectangle[] { new Rectangle(1, 1, 62, 62), new Rectangle(5, 17, 50, 40) }) {
+			BufferedImage part = threeCols.getSubimage(region.x, region.y, region.width, region.height);
+			assertEquals(colourReader.averageColour(part), pyramid.averageColour(region));
+
+			List<ColourArea> direct = colourReader.colourArea(part);
+			assertEquals(direct.size(), pyramid.colourArea(region).size());
+			assertTrue(direct.containsAll(pyramid.colourArea(region)));
+		}
+	}
+
+	@Test
+	public void pyramidBadRegionTest() {
+		// verify that regions outside of the image, or not aligned to the sampling grid, are rejected
+		BufferedImage threeCols = ImageUtils.quartersImage(20, 20, Color.BLUE, Color.BLUE, Color.RED, Color.GREEN);
+
+		try {
+			new ColourReader().withResolution(1f).pyramid(threeCols).colourArea(new Rectangle(10, 10, 20, 20));
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+			// expected
+		}
+
+		try {
+			new ColourReader().withResolution(1f).pyramid(threeCols).averageColour(new Rectangle(10, 10, 0, 10));
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+			// expected
+		}
+
+		try {
+			new ColourReader().withResolution(0.5f).pyramid(threeCols).colourArea(new Rectangle(1, 0, 10, 10));
+			fail("Expected IllegalArgumentException");
+		} catch (IllegalArgumentException expected) {
+			// expected
+		}
+	}
+
 	@Disabled
 	@Test
 	public void sandbox() throws IOException {